@@ -0,0 +1,136 @@
+package se.hiflyer.paparazzo.performance;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.HeuristicEstimator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The map the benchmarks search, read from {@code src/jmh/resources/map.png}. White pixels are open
+ * and everything else is a wall. Distances and estimates are manhattan distances between cells.
+ */
+class BenchmarkMap {
+	private final BufferedImage image;
+	private final Node[][] nodes;
+	private int wallCount;
+
+	private BenchmarkMap(BufferedImage image) {
+		this.image = image;
+		nodes = new Node[image.getHeight()][image.getWidth()];
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				int entry = image.getRGB(x, y);
+				boolean isWall = entry != Color.WHITE.getRGB();
+				nodes[y][x] = new Node(y, x, isWall);
+				if (isWall) {
+					wallCount++;
+				}
+			}
+		}
+	}
+
+	static BenchmarkMap load() throws IOException {
+		return new BenchmarkMap(ImageIO.read(new File("src/jmh/resources/map.png")));
+	}
+
+	static class Node {
+		final int row;
+		final int col;
+		final boolean isWall;
+
+		public Node(int row, int col, boolean isWall) {
+			this.row = row;
+			this.col = col;
+			this.isWall = isWall;
+		}
+	}
+
+	Node getNode(int x, int y) {
+		if (x >= 0 && x < image.getWidth() && y >= 0 && y < image.getHeight()) {
+			return nodes[y][x];
+		} else {
+			return null;
+		}
+	}
+
+	int getWallCount() {
+		return wallCount;
+	}
+
+	int getCellCount() {
+		return image.getWidth() * image.getHeight();
+	}
+
+	HeuristicEstimator<Node> estimator() {
+		return (start, goal) -> Math.abs(start.col - goal.col) + Math.abs(start.row - goal.row);
+	}
+
+	DistanceCalculator<Node> distanceCalculator() {
+		return (x, y) -> Math.abs(x.col - y.col) + Math.abs(x.row - y.row);
+	}
+
+	/**
+	 * All eight surrounding cells that aren't walls.
+	 */
+	NeighbourLookup<Node> neighbourLookup() {
+		return cached(this::neighbours);
+	}
+
+	/**
+	 * Only the four diagonal cells, walls included. This is what {@link PerformanceTest} has always
+	 * searched, kept so that its numbers can be compared with earlier runs.
+	 */
+	NeighbourLookup<Node> diagonalNeighbourLookup() {
+		return cached(this::diagonalNeighbours);
+	}
+
+	private List<Node> neighbours(Node node) {
+		List<Node> neighbours = new ArrayList<>();
+		for (int x = -1; x < 2; x++) {
+			for (int y = -1; y < 2; y++) {
+				if (!(x == 0 && y == 0)) {
+					Node neighbour = getNode(node.col + x, node.row + y);
+					if (neighbour != null && !neighbour.isWall) {
+						neighbours.add(neighbour);
+					}
+				}
+			}
+		}
+		return neighbours;
+	}
+
+	private List<Node> diagonalNeighbours(Node node) {
+		List<Node> neighbours = new ArrayList<>();
+		for (int x = -1; x < 2; x += 2) {
+			for (int y = -1; y < 2; y += 2) {
+				Node neighbour = getNode(node.col + x, node.row + y);
+				if (neighbour != null) {
+					neighbours.add(neighbour);
+				}
+			}
+		}
+		return neighbours;
+	}
+
+	private static NeighbourLookup<Node> cached(Function<Node, List<Node>> lookup) {
+		// Guava caches are thread safe, which the parallel search requires
+		LoadingCache<Node, Iterable<Node>> cache = CacheBuilder.newBuilder().build(new CacheLoader<Node, Iterable<Node>>() {
+			@Override
+			public Iterable<Node> load(Node key) throws Exception {
+				return lookup.apply(key);
+			}
+		});
+		return cache::getUnchecked;
+	}
+}
@@ -0,0 +1,48 @@
+package se.hiflyer.paparazzo.performance;
+
+import org.openjdk.jmh.annotations.*;
+import se.hiflyer.paparazzo.interfaces.Path;
+import se.hiflyer.paparazzo.interfaces.PathFinder;
+import se.hiflyer.paparazzo.performance.BenchmarkMap.Node;
+
+/**
+ * Searches between the same endpoints on the {@link BenchmarkMap}, with all eight neighbours and walls
+ * skipped, so that the numbers of the subclasses can be compared with each other.
+ */
+public abstract class MapSearchBenchmark {
+	private BenchmarkMap map;
+	private PathFinder<Node> pathFinder;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		map = BenchmarkMap.load();
+		pathFinder = createPathFinder(map);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		if (pathFinder instanceof AutoCloseable) {
+			((AutoCloseable) pathFinder).close();
+		}
+	}
+
+	protected abstract PathFinder<Node> createPathFinder(BenchmarkMap map);
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	public Path<Node> searchAlmostStraightPath() {
+		return pathFinder.search(map.getNode(178, 96), map.getNode(355, 151));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	public Path<Node> searchAroundObstacles() {
+		return pathFinder.search(map.getNode(102, 90), map.getNode(20, 20));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	public Path<Node> searchAcrossMap() {
+		return pathFinder.search(map.getNode(5, 5), map.getNode(390, 290));
+	}
+}
@@ -0,0 +1,23 @@
+package se.hiflyer.paparazzo.performance;
+
+import org.openjdk.jmh.annotations.*;
+import se.hiflyer.paparazzo.algorithm.ParallelAStar;
+import se.hiflyer.paparazzo.interfaces.PathFinder;
+import se.hiflyer.paparazzo.performance.BenchmarkMap.Node;
+
+/**
+ * Measures how {@link ParallelAStar} scales with the number of worker threads on the large map.
+ * {@link SequentialPerformanceTest} runs the same searches with {@link se.hiflyer.paparazzo.algorithm.AStar}
+ * as a baseline.
+ */
+@State(Scope.Benchmark)
+public class ParallelPerformanceTest extends MapSearchBenchmark {
+
+	@Param({"1", "2", "4", "8", "16", "32"})
+	public int threads;
+
+	@Override
+	protected PathFinder<Node> createPathFinder(BenchmarkMap map) {
+		return new ParallelAStar<>(map.estimator(), map.neighbourLookup(), map.distanceCalculator(), threads);
+	}
+}
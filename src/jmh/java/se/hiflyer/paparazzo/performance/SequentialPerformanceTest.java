@@ -0,0 +1,18 @@
+package se.hiflyer.paparazzo.performance;
+
+import org.openjdk.jmh.annotations.*;
+import se.hiflyer.paparazzo.algorithm.AStar;
+import se.hiflyer.paparazzo.interfaces.PathFinder;
+import se.hiflyer.paparazzo.performance.BenchmarkMap.Node;
+
+/**
+ * Runs the searches of {@link ParallelPerformanceTest} with {@link AStar}, as the baseline for its scaling.
+ */
+@State(Scope.Benchmark)
+public class SequentialPerformanceTest extends MapSearchBenchmark {
+
+	@Override
+	protected PathFinder<Node> createPathFinder(BenchmarkMap map) {
+		return new AStar<>(map.estimator(), map.neighbourLookup(), map.distanceCalculator());
+	}
+}
@@ -4,13 +4,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import se.hiflyer.paparazzo.impl.Paths;
 import se.hiflyer.paparazzo.impl.SearchListenerAdapter;
-import se.hiflyer.paparazzo.impl.SimplePath;
+import se.hiflyer.paparazzo.impl.ArrayPath;
 import se.hiflyer.paparazzo.interfaces.*;
 
 import java.util.*;
 
 
-public class AStar<T> {
+public class AStar<T> implements PathFinder<T> {
 	private final Logger log = LoggerFactory.getLogger(getClass());
 	private final HeuristicEstimator<T> estimator;
 	private final NeighbourLookup<T> neighbourLookup;
@@ -28,6 +28,7 @@ public class AStar<T> {
 		this(estimator, neighbourLookup, distanceCalculator, new SearchListenerAdapter<T>());
 	}
 
+	@Override
 	public Path<T> search(T start, T goal) {
 		final Map<T, NodeData<T>> nodeDataMap = new HashMap<>();
 
@@ -48,7 +49,7 @@ public class AStar<T> {
 			T x = nodeDataForX.node;
 			log.debug("Current node is {}, retrieved from the open set", x);
 			if (x.equals(goal)) {
-				SimplePath<T> path = reconstructPath(nodeDataMap, goal);
+				ArrayPath<T> path = ArrayPath.fromParents(goal, node -> nodeDataMap.get(node).parent);
 				log.debug("At goal, reconstructed path is {}", path);
 
 				return path;
@@ -77,8 +78,8 @@ public class AStar<T> {
 				} else {
 					if (tentativeGScore < nodeData.g) {
 						log.debug("Tentative score is better than old score {} < {}, updating", tentativeGScore, nodeData);
+						// The estimate only depends on the node and the goal, so the one we have is still valid
 						nodeData.g = tentativeGScore;
-						nodeData.h =  estimator.estimate(y, goal);
 						nodeData.parent = x;
 						openSet.remove(nodeData);
 						openSet.add(nodeData);
@@ -95,19 +96,6 @@ public class AStar<T> {
 	}
 
 
-	private SimplePath<T> reconstructPath(Map<T, NodeData<T>> nodeDataMap, T currentNode) {
-		T parent = nodeDataMap.get(currentNode).parent;
-		if (parent != null) {
-
-			SimplePath<T> p = reconstructPath(nodeDataMap, parent);
-			p.add(currentNode);
-			return p;
-		} else {
-			return new SimplePath<T>(currentNode);
-		}
-	}
-
-
 	private static class NodeData<T> {
 		T node;
 		double g;
@@ -0,0 +1,152 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.impl.SearchListenerAdapter;
+import se.hiflyer.paparazzo.impl.SimplePath;
+import se.hiflyer.paparazzo.interfaces.*;
+
+import java.util.*;
+
+/**
+ * Iterative deepening A*. Memory use is bounded by the depth of the current path plus
+ * a transposition table of at most {@code transpositionTableSize} entries, at the cost of
+ * re-expanding nodes once per f-cost threshold. Nodes that fit in the table are only estimated
+ * once per search. Proving that a goal is unreachable requires a full sweep of the reachable
+ * graph for every threshold, so prefer {@link AStar} when that is common.
+ */
+public class IDAStar<T> implements PathFinder<T> {
+	public static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 1 << 16;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final HeuristicEstimator<T> estimator;
+	private final NeighbourLookup<T> neighbourLookup;
+	private final DistanceCalculator<T> distanceCalculator;
+	private final SearchListener<T> searchListener;
+	private final int transpositionTableSize;
+
+	public IDAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator, SearchListener<T> searchListener, int transpositionTableSize) {
+		if (transpositionTableSize < 0) {
+			throw new IllegalArgumentException("Transposition table size must not be negative: " + transpositionTableSize);
+		}
+		this.estimator = estimator;
+		this.neighbourLookup = neighbourLookup;
+		this.distanceCalculator = distanceCalculator;
+		this.searchListener = searchListener;
+		this.transpositionTableSize = transpositionTableSize;
+	}
+
+	public IDAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator, int transpositionTableSize) {
+		this(estimator, neighbourLookup, distanceCalculator, new SearchListenerAdapter<T>(), transpositionTableSize);
+	}
+
+	public IDAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator) {
+		this(estimator, neighbourLookup, distanceCalculator, DEFAULT_TRANSPOSITION_TABLE_SIZE);
+	}
+
+	@Override
+	public Path<T> search(T start, T goal) {
+		if (start.equals(goal)) {
+			return new SimplePath<T>(start);
+		}
+		// Keeps the estimate of a node for the whole search, and the best g seen for it within the
+		// current iteration. A node reached again with a g that is not better can not lead anywhere
+		// new under the same threshold.
+		Map<T, TableEntry> transpositionTable = new HashMap<>();
+		Set<T> onPath = new HashSet<>();
+		Deque<Frame<T>> stack = new ArrayDeque<>();
+
+		double threshold = estimator.estimate(start, goal);
+		for (int iteration = 0; ; iteration++) {
+			log.debug("Starting iteration with threshold {}", threshold);
+			double nextThreshold = Double.POSITIVE_INFINITY;
+			stack.push(new Frame<>(start, 0.0, neighbourLookup.getNeighbours(start).iterator()));
+			onPath.add(start);
+			searchListener.addedToOpenSet(start);
+
+			while (!stack.isEmpty()) {
+				Frame<T> frame = stack.peek();
+				if (!frame.neighbours.hasNext()) {
+					stack.pop();
+					onPath.remove(frame.node);
+					searchListener.addedToClosedSet(frame.node);
+					continue;
+				}
+				T y = frame.neighbours.next();
+				if (onPath.contains(y)) {
+					continue;
+				}
+				double g = frame.g + distanceCalculator.getDistanceBetween(frame.node, y);
+				TableEntry entry = transpositionTable.get(y);
+				if (entry != null && entry.iteration == iteration && entry.g <= g) {
+					continue;
+				}
+				double h;
+				if (entry != null) {
+					h = entry.h;
+				} else {
+					h = estimator.estimate(y, goal);
+					if (transpositionTable.size() < transpositionTableSize) {
+						entry = new TableEntry(h);
+						transpositionTable.put(y, entry);
+					}
+				}
+				double f = g + h;
+				if (f > threshold) {
+					nextThreshold = Math.min(nextThreshold, f);
+					continue;
+				}
+				if (entry != null) {
+					entry.g = g;
+					entry.iteration = iteration;
+				}
+				searchListener.updatedGCost(y, g);
+				if (y.equals(goal)) {
+					SimplePath<T> path = reconstructPath(stack, goal);
+					log.debug("At goal, reconstructed path is {}", path);
+					return path;
+				}
+				stack.push(new Frame<>(y, g, neighbourLookup.getNeighbours(y).iterator()));
+				onPath.add(y);
+				searchListener.addedToOpenSet(y);
+			}
+
+			if (nextThreshold == Double.POSITIVE_INFINITY) {
+				return Paths.FAIL;
+			}
+			threshold = nextThreshold;
+		}
+	}
+
+	private SimplePath<T> reconstructPath(Deque<Frame<T>> stack, T goal) {
+		SimplePath<T> path = new SimplePath<T>();
+		for (Iterator<Frame<T>> it = stack.descendingIterator(); it.hasNext(); ) {
+			path.add(it.next().node);
+		}
+		path.add(goal);
+		return path;
+	}
+
+	private static class TableEntry {
+		final double h;
+		double g = Double.POSITIVE_INFINITY;
+		int iteration = -1;
+
+		TableEntry(double h) {
+			this.h = h;
+		}
+	}
+
+	private static class Frame<T> {
+		final T node;
+		final double g;
+		final Iterator<T> neighbours;
+
+		Frame(T node, double g, Iterator<T> neighbours) {
+			this.node = node;
+			this.g = g;
+			this.neighbours = neighbours;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.impl.SimplePath;
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.HeuristicEstimator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Learning real-time A* (LRTA*). Instead of searching all the way to the goal, every call only
+ * looks at the neighbours of the current node and commits to a fixed number of steps, so an agent
+ * can start moving within a bounded amount of work. The estimates of visited nodes are raised as
+ * the agent learns about the graph, which keeps it from getting stuck and makes repeated trips
+ * towards the same goal converge on the shortest path when the estimator never overestimates.
+ * <p>
+ * What has been learned is kept until the goal changes or {@link #reset()} is called. An agent that
+ * can't reach the goal will wander around its part of the graph, there is no way to tell it apart
+ * from one that hasn't found the way yet without a full search.
+ */
+public class LRTAStar<T> {
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final HeuristicEstimator<T> estimator;
+	private final NeighbourLookup<T> neighbourLookup;
+	private final DistanceCalculator<T> distanceCalculator;
+	private final Map<T, Double> estimates = new HashMap<>();
+	private T goal;
+
+	public LRTAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator) {
+		this.estimator = estimator;
+		this.neighbourLookup = neighbourLookup;
+		this.distanceCalculator = distanceCalculator;
+	}
+
+	/**
+	 * @return a path starting at {@code current} with at most {@code steps} more nodes, ending early
+	 * if the goal is reached, or {@link Paths#FAIL} if there is no way to move on from {@code current}
+	 */
+	public Path<T> nextSteps(T current, T goal, int steps) {
+		if (steps < 1) {
+			throw new IllegalArgumentException("Number of steps must be at least 1: " + steps);
+		}
+		if (!goal.equals(this.goal)) {
+			reset();
+			this.goal = goal;
+		}
+
+		SimplePath<T> path = new SimplePath<T>(current);
+		T x = current;
+		for (int i = 0; i < steps && !x.equals(goal); i++) {
+			T best = null;
+			double bestCost = Double.POSITIVE_INFINITY;
+			for (T y : neighbourLookup.getNeighbours(x)) {
+				double cost = distanceCalculator.getDistanceBetween(x, y) + estimate(y);
+				if (best == null || cost < bestCost) {
+					best = y;
+					bestCost = cost;
+				}
+			}
+			if (bestCost > estimate(x)) {
+				log.debug("Raising estimate for {} to {}", x, bestCost);
+				estimates.put(x, bestCost);
+			}
+			if (bestCost == Double.POSITIVE_INFINITY) {
+				log.debug("No way to the goal from {}", x);
+				break;
+			}
+			path.add(best);
+			x = best;
+		}
+		if (path.size() == 1 && !current.equals(goal)) {
+			return Paths.FAIL;
+		}
+		return path;
+	}
+
+	/**
+	 * Forgets everything learned about the graph so far.
+	 */
+	public void reset() {
+		estimates.clear();
+		goal = null;
+	}
+
+	private double estimate(T node) {
+		Double estimate = estimates.get(node);
+		if (estimate == null) {
+			estimate = estimator.estimate(node, goal);
+			estimates.put(node, estimate);
+		}
+		return estimate;
+	}
+}
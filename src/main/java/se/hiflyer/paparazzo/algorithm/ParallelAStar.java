@@ -0,0 +1,348 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.hiflyer.paparazzo.impl.ArrayPath;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.interfaces.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash distributed A* (HDA*). Every node is owned by one worker thread, chosen by its hash code.
+ * Workers expand their own nodes from a private open set and hand generated neighbours to the
+ * owning worker through a lock free queue. The search keeps going after the first path to the goal
+ * is found, until no worker has a node left that could lead to a cheaper one, so the result is as
+ * short as the one from {@link AStar}.
+ * <p>
+ * The estimator, neighbour lookup and distance calculator are called from several threads at once
+ * and must be thread safe.
+ * <p>
+ * Workers run on daemon threads from a pool owned by the instance, so they are reused between
+ * searches. Threads that have been unused for a minute are stopped, {@link #close()} stops them
+ * all right away. A worker with nothing to do parks until a message arrives or the search is over.
+ */
+public class ParallelAStar<T> implements PathFinder<T>, AutoCloseable {
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final HeuristicEstimator<T> estimator;
+	private final NeighbourLookup<T> neighbourLookup;
+	private final DistanceCalculator<T> distanceCalculator;
+	private final int threads;
+	private final ExecutorService executor;
+
+	public ParallelAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be at least 1: " + threads);
+		}
+		this.estimator = estimator;
+		this.neighbourLookup = neighbourLookup;
+		this.distanceCalculator = distanceCalculator;
+		this.threads = threads;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "paparazzo-search-" + threadCount.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public ParallelAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator) {
+		this(estimator, neighbourLookup, distanceCalculator, Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	public Path<T> search(T start, T goal) {
+		Search search = new Search(goal);
+		search.send(start, 0.0, null);
+		search.run();
+
+		double cost = search.incumbent();
+		if (cost == Double.POSITIVE_INFINITY) {
+			return Paths.FAIL;
+		}
+		// All workers have finished, so their maps can be read safely from here on
+		ArrayPath<T> path = ArrayPath.fromParents(goal, node -> search.ownerOf(node).nodeDataMap.get(node).parent);
+		log.debug("At goal with cost {}, path is {}", cost, path);
+		return path;
+	}
+
+	/**
+	 * Stops the worker threads once running searches have finished. No new searches can be started.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private class Search {
+		private final T goal;
+		private final List<Worker> workers = new ArrayList<>(threads);
+		// Unprocessed messages plus workers that still have something to expand. The search
+		// is over once this reaches zero, since nothing can produce new work at that point.
+		private final AtomicLong outstanding = new AtomicLong(threads);
+		// Cost of the cheapest path to the goal found so far, as double bits
+		private final AtomicLong incumbent = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+		private volatile boolean aborted;
+
+		Search(T goal) {
+			this.goal = goal;
+			for (int i = 0; i < threads; i++) {
+				workers.add(new Worker(this));
+			}
+		}
+
+		void run() {
+			// The pool grows as needed, a fixed size pool could deadlock when searches run at the
+			// same time, since no worker finishes before all the workers of its search have started
+			List<Future<?>> running = new ArrayList<>(threads);
+			try {
+				for (Worker worker : workers) {
+					running.add(executor.submit(worker));
+				}
+			} catch (RejectedExecutionException e) {
+				// Lets the workers that did start see that the search is over
+				abort();
+				throw new IllegalStateException("Search started after close", e);
+			}
+			try {
+				for (Future<?> future : running) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				abort();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the search to finish", e);
+			} catch (ExecutionException e) {
+				fail(e.getCause());
+			}
+			Throwable throwable = failure.get();
+			if (throwable instanceof RuntimeException) {
+				throw (RuntimeException) throwable;
+			} else if (throwable instanceof Error) {
+				throw (Error) throwable;
+			} else if (throwable != null) {
+				throw new IllegalStateException("Search worker failed", throwable);
+			}
+		}
+
+		Worker ownerOf(T node) {
+			int h = node.hashCode();
+			h ^= (h >>> 16);
+			h *= 0x85ebca6b;
+			h ^= (h >>> 13);
+			return workers.get(Math.floorMod(h, threads));
+		}
+
+		void send(T node, double g, T parent) {
+			outstanding.incrementAndGet();
+			Worker owner = ownerOf(node);
+			owner.inbox.add(new Message<>(node, g, parent));
+			// Unparking takes a lock in the JVM, so it is only done for a worker that is about to
+			// park. One that isn't will see the message on its next look at the inbox, and one
+			// that is checks the inbox again after announcing it, so the message can't be missed.
+			if (owner.parked) {
+				LockSupport.unpark(owner.thread);
+			}
+		}
+
+		double incumbent() {
+			return Double.longBitsToDouble(incumbent.get());
+		}
+
+		void offerIncumbent(double cost) {
+			long current;
+			do {
+				current = incumbent.get();
+				if (Double.longBitsToDouble(current) <= cost) {
+					return;
+				}
+			} while (!incumbent.compareAndSet(current, Double.doubleToLongBits(cost)));
+			log.debug("Found a path to the goal with cost {}", cost);
+		}
+
+		void fail(Throwable throwable) {
+			failure.compareAndSet(null, throwable);
+			abort();
+		}
+
+		void abort() {
+			aborted = true;
+			wakeAll();
+		}
+
+		void wakeAll() {
+			for (Worker worker : workers) {
+				LockSupport.unpark(worker.thread);
+			}
+		}
+	}
+
+	private class Worker implements Runnable {
+		private final Search search;
+		private final Queue<Message<T>> inbox = new ConcurrentLinkedQueue<>();
+		private final Map<T, NodeData<T>> nodeDataMap = new HashMap<>();
+		private final Queue<OpenEntry<T>> openSet = new PriorityQueue<>(20, ParallelAStar::compareEntries);
+		private volatile Thread thread;
+		private volatile boolean parked;
+		private boolean idle;
+
+		Worker(Search search) {
+			this.search = search;
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			try {
+				while (!search.aborted) {
+					drainInbox();
+					OpenEntry<T> entry = pollOpenSet();
+					if (entry != null) {
+						expand(entry.nodeData);
+						continue;
+					}
+					if (!idle) {
+						idle = true;
+						if (search.outstanding.decrementAndGet() == 0) {
+							// Everyone else is parked with nothing to do, let them see that the search is over
+							search.wakeAll();
+						}
+					}
+					if (search.outstanding.get() == 0) {
+						return;
+					}
+					park();
+				}
+			} catch (Throwable e) {
+				search.fail(e);
+			} finally {
+				thread = null;
+			}
+		}
+
+		private void park() {
+			parked = true;
+			if (inbox.isEmpty() && search.outstanding.get() != 0 && !search.aborted) {
+				LockSupport.park(this);
+			}
+			parked = false;
+		}
+
+		private void drainInbox() {
+			Message<T> message;
+			while ((message = inbox.poll()) != null) {
+				if (idle) {
+					// Count ourselves as busy before the message stops counting, so that the
+					// outstanding work never drops to zero while this message is being handled
+					idle = false;
+					search.outstanding.incrementAndGet();
+				}
+				receive(message.node, message.g, message.parent);
+				search.outstanding.decrementAndGet();
+			}
+		}
+
+		private OpenEntry<T> pollOpenSet() {
+			OpenEntry<T> entry;
+			while ((entry = openSet.poll()) != null) {
+				if (entry.g > entry.nodeData.g) {
+					// A cheaper way to this node has been queued since
+					continue;
+				}
+				if (entry.f >= search.incumbent()) {
+					// Nothing left here can beat the path we already have
+					openSet.clear();
+					return null;
+				}
+				return entry;
+			}
+			return null;
+		}
+
+		private void receive(T node, double g, T parent) {
+			NodeData<T> nodeData = nodeDataMap.get(node);
+			if (nodeData == null) {
+				nodeData = new NodeData<>(node, estimator.estimate(node, search.goal));
+				nodeDataMap.put(node, nodeData);
+			} else if (nodeData.g <= g) {
+				return;
+			}
+			nodeData.g = g;
+			nodeData.parent = parent;
+			if (node.equals(search.goal)) {
+				search.offerIncumbent(g);
+				return;
+			}
+			double f = g + nodeData.h;
+			if (f < search.incumbent()) {
+				openSet.add(new OpenEntry<>(nodeData, g, f));
+			}
+		}
+
+		private void expand(NodeData<T> nodeData) {
+			T x = nodeData.node;
+			for (T y : neighbourLookup.getNeighbours(x)) {
+				if (nodeData.parent != null && y.equals(nodeData.parent)) {
+					continue;
+				}
+				double g = nodeData.g + distanceCalculator.getDistanceBetween(x, y);
+				if (search.ownerOf(y) == this) {
+					receive(y, g, x);
+				} else {
+					search.send(y, g, x);
+				}
+			}
+		}
+	}
+
+	private static <T> int compareEntries(OpenEntry<T> e1, OpenEntry<T> e2) {
+		int compare = Double.compare(e1.f, e2.f);
+		if (compare != 0) {
+			return compare;
+		}
+		// Prefer the deeper node on ties, it is more likely to lead straight to the goal
+		return Double.compare(e2.g, e1.g);
+	}
+
+	private static class Message<T> {
+		final T node;
+		final double g;
+		final T parent;
+
+		Message(T node, double g, T parent) {
+			this.node = node;
+			this.g = g;
+			this.parent = parent;
+		}
+	}
+
+	private static class NodeData<T> {
+		final T node;
+		final double h;
+		double g = Double.POSITIVE_INFINITY;
+		T parent;
+
+		NodeData(T node, double h) {
+			this.node = node;
+			this.h = h;
+		}
+	}
+
+	private static class OpenEntry<T> {
+		final NodeData<T> nodeData;
+		final double g;
+		final double f;
+
+		OpenEntry(NodeData<T> nodeData, double g, double f) {
+			this.nodeData = nodeData;
+			this.g = g;
+			this.f = f;
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.impl.SearchListenerAdapter;
+import se.hiflyer.paparazzo.impl.SimplePath;
+import se.hiflyer.paparazzo.interfaces.*;
+
+import java.util.*;
+
+/**
+ * Simplified memory-bounded A*. Keeps at most {@code maxNodes} search nodes in memory; when
+ * the limit is reached the shallowest, most expensive leaf is forgotten and its f-cost is
+ * remembered by its parent so the branch can be regenerated later if it becomes the best one.
+ * Successors are generated one at a time, so a node never needs room for all of them at once.
+ * Paths longer than the node cap are never found, and a cap that is small compared to the
+ * searched area makes the search spend most of its time regenerating forgotten nodes.
+ */
+public class SMAStar<T> implements PathFinder<T> {
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final HeuristicEstimator<T> estimator;
+	private final NeighbourLookup<T> neighbourLookup;
+	private final DistanceCalculator<T> distanceCalculator;
+	private final SearchListener<T> searchListener;
+	private final int maxNodes;
+
+	public SMAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator, SearchListener<T> searchListener, int maxNodes) {
+		if (maxNodes < 2) {
+			throw new IllegalArgumentException("Node cap must be at least 2: " + maxNodes);
+		}
+		this.estimator = estimator;
+		this.neighbourLookup = neighbourLookup;
+		this.distanceCalculator = distanceCalculator;
+		this.searchListener = searchListener;
+		this.maxNodes = maxNodes;
+	}
+
+	public SMAStar(HeuristicEstimator<T> estimator, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator, int maxNodes) {
+		this(estimator, neighbourLookup, distanceCalculator, new SearchListenerAdapter<T>(), maxNodes);
+	}
+
+	@Override
+	public Path<T> search(T start, T goal) {
+		// Cheapest node for each state currently in memory, used to skip dominated duplicates
+		final Map<T, NodeData<T>> nodeDataMap = new HashMap<>();
+		NavigableSet<NodeData<T>> openSet = new TreeSet<>(this::compareNodes);
+		long sequence = 0;
+
+		double estimate = estimator.estimate(start, goal);
+		NodeData<T> root = new NodeData<>(start, null, 0.0, estimate, estimate, 0, sequence++);
+		nodeDataMap.put(start, root);
+		int nodesInMemory = 1;
+		openSet.add(root);
+		searchListener.addedToOpenSet(start);
+
+		while (!openSet.isEmpty()) {
+			NodeData<T> best = openSet.first();
+			if (best.f == Double.POSITIVE_INFINITY) {
+				break;
+			}
+			log.debug("Current node is {}, retrieved from the open set", best.node);
+			if (best.node.equals(goal)) {
+				SimplePath<T> path = reconstructPath(best);
+				log.debug("At goal, reconstructed path is {}", path);
+				return path;
+			}
+
+			if (best.unexplored == null) {
+				best.unexplored = neighbourLookup.getNeighbours(best.node).iterator();
+				searchListener.addedToClosedSet(best.node);
+			}
+			NodeData<T> child = nextSuccessor(best, goal, nodeDataMap, sequence++);
+			if (child != null) {
+				best.children.add(child);
+				nodeDataMap.put(child.node, child);
+				nodesInMemory++;
+				openSet.add(child);
+				searchListener.updatedGCost(child.node, child.g);
+				searchListener.addedToOpenSet(child.node);
+			}
+			if (best.isComplete() && !best.children.isEmpty()) {
+				// Every successor is in memory, the node stays out of the open set until one is forgotten.
+				// Dead ends stay in with an infinite f, which makes them the first to be forgotten.
+				openSet.remove(best);
+			}
+			backup(best, openSet);
+
+			while (nodesInMemory > maxNodes) {
+				NodeData<T> worst = worstLeaf(openSet, root);
+				if (worst == null) {
+					log.debug("No leaf can be forgotten, exceeding the node cap of {}", maxNodes);
+					break;
+				}
+				forget(worst, openSet, nodeDataMap);
+				nodesInMemory--;
+			}
+		}
+		return Paths.FAIL;
+	}
+
+	/**
+	 * Generates the next successor that has never been in memory, or once they have all been
+	 * generated, regenerates the forgotten one with the lowest f.
+	 */
+	private NodeData<T> nextSuccessor(NodeData<T> nodeData, T goal, Map<T, NodeData<T>> nodeDataMap, long sequence) {
+		while (nodeData.unexplored.hasNext()) {
+			T y = nodeData.unexplored.next();
+			if (nodeData.parent != null && y.equals(nodeData.parent.node)) {
+				continue;
+			}
+			NodeData<T> child = generate(nodeData, y, nodeData.f, goal, nodeDataMap, sequence);
+			if (child != null) {
+				return child;
+			}
+		}
+		T best = null;
+		double bestF = Double.POSITIVE_INFINITY;
+		for (Map.Entry<T, Double> entry : nodeData.forgotten.entrySet()) {
+			if (best == null || entry.getValue() < bestF) {
+				best = entry.getKey();
+				bestF = entry.getValue();
+			}
+		}
+		if (best == null) {
+			return null;
+		}
+		nodeData.forgotten.remove(best);
+		return generate(nodeData, best, bestF, goal, nodeDataMap, sequence);
+	}
+
+	private NodeData<T> generate(NodeData<T> parent, T y, double minF, T goal, Map<T, NodeData<T>> nodeDataMap, long sequence) {
+		double g = parent.g + distanceCalculator.getDistanceBetween(parent.node, y);
+		NodeData<T> existing = nodeDataMap.get(y);
+		if (existing != null && existing.g <= g && existing.depth <= parent.depth + 1) {
+			// A deeper copy doesn't count, it may run into the node cap where this one wouldn't
+			return null;
+		}
+		// A dominated duplicate is about to be replaced, reuse its estimate
+		double h = existing != null ? existing.h : estimator.estimate(y, goal);
+		double f;
+		if (parent.depth + 2 >= maxNodes && !y.equals(goal)) {
+			// A path this deep can never be completed within the node cap
+			f = Double.POSITIVE_INFINITY;
+		} else {
+			// Pathmax: a child is never cheaper than its parent or than what was learned before it was forgotten
+			f = Math.max(minF, g + h);
+		}
+		return new NodeData<>(y, parent, g, h, f, parent.depth + 1, sequence);
+	}
+
+	private void backup(NodeData<T> nodeData, NavigableSet<NodeData<T>> openSet) {
+		while (nodeData != null) {
+			if (nodeData.hasUnexplored()) {
+				// A successor that hasn't been generated yet can be as cheap as the node itself
+				return;
+			}
+			double f = Double.POSITIVE_INFINITY;
+			for (double forgottenF : nodeData.forgotten.values()) {
+				f = Math.min(f, forgottenF);
+			}
+			for (NodeData<T> child : nodeData.children) {
+				f = Math.min(f, child.f);
+			}
+			if (f == nodeData.f) {
+				return;
+			}
+			boolean open = openSet.remove(nodeData);
+			nodeData.f = f;
+			if (open) {
+				openSet.add(nodeData);
+			}
+			nodeData = nodeData.parent;
+		}
+	}
+
+	private NodeData<T> worstLeaf(NavigableSet<NodeData<T>> openSet, NodeData<T> root) {
+		for (NodeData<T> nodeData : openSet.descendingSet()) {
+			if (nodeData != root && nodeData.children.isEmpty()) {
+				return nodeData;
+			}
+		}
+		return null;
+	}
+
+	private void forget(NodeData<T> leaf, NavigableSet<NodeData<T>> openSet, Map<T, NodeData<T>> nodeDataMap) {
+		log.debug("Forgetting {} with f {}", leaf.node, leaf.f);
+		openSet.remove(leaf);
+		if (nodeDataMap.get(leaf.node) == leaf) {
+			nodeDataMap.remove(leaf.node);
+		}
+		NodeData<T> parent = leaf.parent;
+		parent.children.remove(leaf);
+		if (leaf.f < Double.POSITIVE_INFINITY) {
+			// Remember the leaf so the parent can regenerate it, unless it can never be part of a path
+			parent.forgotten.put(leaf.node, leaf.f);
+		}
+		openSet.add(parent);
+		backup(parent, openSet);
+	}
+
+	private int compareNodes(NodeData<T> n1, NodeData<T> n2) {
+		int compare = Double.compare(n1.f, n2.f);
+		if (compare != 0) {
+			return compare;
+		}
+		// Prefer deeper nodes when expanding, which makes the shallow ones the first to be forgotten
+		compare = Integer.compare(n2.depth, n1.depth);
+		if (compare != 0) {
+			return compare;
+		}
+		return Long.compare(n1.sequence, n2.sequence);
+	}
+
+	private SimplePath<T> reconstructPath(NodeData<T> nodeData) {
+		Deque<T> nodes = new ArrayDeque<>();
+		for (NodeData<T> current = nodeData; current != null; current = current.parent) {
+			nodes.push(current.node);
+		}
+		SimplePath<T> path = new SimplePath<T>();
+		for (T node : nodes) {
+			path.add(node);
+		}
+		return path;
+	}
+
+	private static class NodeData<T> {
+		final T node;
+		final NodeData<T> parent;
+		final double g;
+		final double h;
+		double f;
+		final int depth;
+		final long sequence;
+		final List<NodeData<T>> children = new ArrayList<>(4);
+		// Successors that have never been generated, null until the node is first expanded
+		Iterator<T> unexplored;
+		// Forgotten children and their f when they were forgotten
+		final Map<T, Double> forgotten = new HashMap<>(4);
+
+		public NodeData(T node, NodeData<T> parent, double g, double h, double f, int depth, long sequence) {
+			this.node = node;
+			this.parent = parent;
+			this.g = g;
+			this.h = h;
+			this.f = f;
+			this.depth = depth;
+			this.sequence = sequence;
+		}
+
+		boolean hasUnexplored() {
+			return unexplored == null || unexplored.hasNext();
+		}
+
+		boolean isComplete() {
+			return !hasUnexplored() && forgotten.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package se.hiflyer.paparazzo.impl;
+
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * A path backed by an array, put together by walking from the last node back along the parent
+ * links of a finished search. The walk is iterative, so long paths can't overflow the stack, and
+ * only the nodes on the path are kept, not the search that found them.
+ */
+public class ArrayPath<T> implements Path<T> {
+	private final Object[] nodes;
+
+	private ArrayPath(Object[] nodes) {
+		this.nodes = nodes;
+	}
+
+	/**
+	 * @param last         the last node of the path
+	 * @param parentLookup returns the node before the given one on the path, or null for the first node
+	 */
+	public static <T> ArrayPath<T> fromParents(T last, UnaryOperator<T> parentLookup) {
+		ArrayDeque<T> reversed = new ArrayDeque<>();
+		for (T node = last; node != null; node = parentLookup.apply(node)) {
+			reversed.push(node);
+		}
+		return new ArrayPath<>(reversed.toArray());
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(nodes, Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+	}
+
+	public int size() {
+		return nodes.length;
+	}
+
+	@Override
+	public String toString() {
+		return "ArrayPath{" +
+				"nodes=" + Arrays.toString(nodes) +
+				'}';
+	}
+}
@@ -0,0 +1,287 @@
+package se.hiflyer.paparazzo.impl;
+
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.NodeIndexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * An indexed graph with its edge weights, stored as compressed rows (for every node index, the range
+ * of its edges in one array of neighbour indices and one of weights). A snapshot is built once from
+ * a {@link NeighbourLookup} and a {@link DistanceCalculator}, written to a file and then memory mapped
+ * by every process that needs it, so nothing has to be rebuilt on start and the operating system
+ * shares the pages between processes reading the same file.
+ * <p>
+ * File layout, big endian:
+ * <pre>
+ * int    magic, {@link #MAGIC}
+ * int    format version, {@link #VERSION}
+ * int    node count n
+ * int    edge count e
+ * int    offsets[n + 1], edges of node i are at [offsets[i], offsets[i + 1])
+ * int    targets[e]
+ * byte   padding up to a multiple of 8
+ * double weights[e]
+ * </pre>
+ * Mapped files are limited to 2 GB.
+ */
+public class GraphSnapshot {
+	public static final int MAGIC = 0x50505a53;
+	public static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private final int nodeCount;
+	private final IntBuffer offsets;
+	private final IntBuffer targets;
+	private final DoubleBuffer weights;
+
+	private GraphSnapshot(int nodeCount, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights) {
+		this.nodeCount = nodeCount;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * Looks up the neighbours of and distances to all the given nodes. Nodes that are not given
+	 * get no edges.
+	 *
+	 * @throws IllegalArgumentException if a node or neighbour has an index outside [0, nodeCount),
+	 *                                  or two of the given nodes have the same index
+	 */
+	public static <T> GraphSnapshot build(Iterable<T> nodes, int nodeCount, NodeIndexer<T> indexer, NeighbourLookup<T> neighbourLookup, DistanceCalculator<T> distanceCalculator) {
+		List<T> nodesByIndex = new ArrayList<>(nodeCount);
+		List<List<T>> neighboursByIndex = new ArrayList<>(nodeCount);
+		for (int i = 0; i < nodeCount; i++) {
+			nodesByIndex.add(null);
+			neighboursByIndex.add(null);
+		}
+		int edgeCount = 0;
+		for (T x : nodes) {
+			List<T> neighbours = new ArrayList<>();
+			for (T y : neighbourLookup.getNeighbours(x)) {
+				neighbours.add(y);
+			}
+			int index = checkIndex(indexer.getIndex(x), nodeCount, x);
+			if (nodesByIndex.get(index) != null) {
+				throw new IllegalArgumentException(String.format("%s and %s both have index %d", nodesByIndex.get(index), x, index));
+			}
+			nodesByIndex.set(index, x);
+			neighboursByIndex.set(index, neighbours);
+			edgeCount += neighbours.size();
+		}
+
+		int[] offsets = new int[nodeCount + 1];
+		int[] targets = new int[edgeCount];
+		double[] weights = new double[edgeCount];
+		int edge = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			offsets[i] = edge;
+			List<T> neighbours = neighboursByIndex.get(i);
+			if (neighbours == null) {
+				continue;
+			}
+			T x = nodesByIndex.get(i);
+			for (T y : neighbours) {
+				targets[edge] = checkIndex(indexer.getIndex(y), nodeCount, y);
+				weights[edge] = distanceCalculator.getDistanceBetween(x, y);
+				edge++;
+			}
+		}
+		offsets[nodeCount] = edge;
+		return new GraphSnapshot(nodeCount, IntBuffer.wrap(offsets), IntBuffer.wrap(targets), DoubleBuffer.wrap(weights));
+	}
+
+	/**
+	 * Maps a snapshot file into memory. The offsets and targets are read once to check that they are
+	 * consistent, the weights are not read up front, their pages are loaded as they are used.
+	 */
+	public static GraphSnapshot map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(String.format("Snapshot %s is too large to map, %d bytes", file, size));
+			}
+			if (size < HEADER_SIZE) {
+				throw new IOException(String.format("Snapshot %s is truncated, %d bytes", file, size));
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			int magic = buffer.getInt();
+			if (magic != MAGIC) {
+				throw new IOException(String.format("%s is not a snapshot, magic is %08x", file, magic));
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException(String.format("Snapshot %s has version %d, only version %d is supported", file, version, VERSION));
+			}
+			int nodeCount = buffer.getInt();
+			int edgeCount = buffer.getInt();
+			if (nodeCount < 0 || edgeCount < 0 || size != fileSize(nodeCount, edgeCount)) {
+				throw new IOException(String.format("Snapshot %s is corrupt, %d nodes and %d edges don't fit in %d bytes", file, nodeCount, edgeCount, size));
+			}
+			// The sizes have been checked against a file that fits in an int, so nothing below can overflow
+			int targetsStart = (int) targetsStart(nodeCount);
+			int targetsEnd = (int) targetsEnd(nodeCount, edgeCount);
+			int weightsStart = (int) align(targetsEnd);
+			IntBuffer offsets = section(buffer, HEADER_SIZE, targetsStart).asIntBuffer();
+			IntBuffer targets = section(buffer, targetsStart, targetsEnd).asIntBuffer();
+			checkEdges(file, nodeCount, edgeCount, offsets, targets);
+			return new GraphSnapshot(nodeCount, offsets, targets, section(buffer, weightsStart, (int) size).asDoubleBuffer());
+		}
+	}
+
+	private static void checkEdges(File file, int nodeCount, int edgeCount, IntBuffer offsets, IntBuffer targets) throws IOException {
+		if (offsets.get(0) != 0 || offsets.get(nodeCount) != edgeCount) {
+			throw new IOException(String.format("Snapshot %s is corrupt, edge offsets go from %d to %d instead of 0 to %d", file, offsets.get(0), offsets.get(nodeCount), edgeCount));
+		}
+		for (int i = 0; i < nodeCount; i++) {
+			if (offsets.get(i) > offsets.get(i + 1)) {
+				throw new IOException(String.format("Snapshot %s is corrupt, edge offsets of nodes %d and %d are out of order", file, i, i + 1));
+			}
+		}
+		for (int edge = 0; edge < edgeCount; edge++) {
+			int target = targets.get(edge);
+			if (target < 0 || target >= nodeCount) {
+				throw new IOException(String.format("Snapshot %s is corrupt, edge %d goes to node %d of %d", file, edge, target, nodeCount));
+			}
+		}
+	}
+
+	public void writeTo(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			write(channel);
+		}
+	}
+
+	public void write(WritableByteChannel channel) throws IOException {
+		int edgeCount = getEdgeCount();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(edgeCount);
+		buffer.flip();
+		writeFully(channel, buffer);
+
+		writeInts(channel, offsets, buffer);
+		writeInts(channel, targets, buffer);
+		long written = targetsEnd(nodeCount, edgeCount);
+		writeFully(channel, ByteBuffer.allocate((int) (align(written) - written)));
+		writeDoubles(channel, weights, buffer);
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public int getEdgeCount() {
+		return offsets.get(nodeCount);
+	}
+
+	/**
+	 * @param nodes returns the node for an index, the opposite of {@code indexer}
+	 */
+	public <T> NeighbourLookup<T> neighbourLookup(NodeIndexer<T> indexer, IntFunction<T> nodes) {
+		return x -> {
+			int index = indexer.getIndex(x);
+			int end = offsets.get(index + 1);
+			List<T> neighbours = new ArrayList<>(end - offsets.get(index));
+			for (int edge = offsets.get(index); edge < end; edge++) {
+				neighbours.add(nodes.apply(targets.get(edge)));
+			}
+			return neighbours;
+		};
+	}
+
+	public <T> DistanceCalculator<T> distanceCalculator(NodeIndexer<T> indexer) {
+		return (x, y) -> {
+			int index = indexer.getIndex(x);
+			int target = indexer.getIndex(y);
+			int end = offsets.get(index + 1);
+			for (int edge = offsets.get(index); edge < end; edge++) {
+				if (targets.get(edge) == target) {
+					return weights.get(edge);
+				}
+			}
+			throw new IllegalArgumentException(String.format("No edge from %s to %s in snapshot", x, y));
+		};
+	}
+
+	private static int checkIndex(int index, int nodeCount, Object node) {
+		if (index < 0 || index >= nodeCount) {
+			throw new IllegalArgumentException(String.format("Index %d of %s is outside the %d nodes of the snapshot", index, node, nodeCount));
+		}
+		return index;
+	}
+
+	private static long targetsStart(int nodeCount) {
+		return HEADER_SIZE + 4L * ((long) nodeCount + 1);
+	}
+
+	private static long targetsEnd(int nodeCount, int edgeCount) {
+		return targetsStart(nodeCount) + 4L * edgeCount;
+	}
+
+	private static long fileSize(int nodeCount, int edgeCount) {
+		return align(targetsEnd(nodeCount, edgeCount)) + 8L * edgeCount;
+	}
+
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	private static ByteBuffer section(ByteBuffer buffer, int start, int end) {
+		ByteBuffer section = buffer.duplicate();
+		section.limit(end).position(start);
+		return section.slice();
+	}
+
+	private static void writeInts(WritableByteChannel channel, IntBuffer source, ByteBuffer buffer) throws IOException {
+		IntBuffer remaining = source.duplicate();
+		remaining.clear();
+		while (remaining.hasRemaining()) {
+			buffer.clear();
+			IntBuffer chunk = buffer.asIntBuffer();
+			int count = Math.min(chunk.remaining(), remaining.remaining());
+			IntBuffer part = remaining.duplicate();
+			part.limit(part.position() + count);
+			chunk.put(part);
+			remaining.position(remaining.position() + count);
+			buffer.limit(4 * count);
+			writeFully(channel, buffer);
+		}
+	}
+
+	private static void writeDoubles(WritableByteChannel channel, DoubleBuffer source, ByteBuffer buffer) throws IOException {
+		DoubleBuffer remaining = source.duplicate();
+		remaining.clear();
+		while (remaining.hasRemaining()) {
+			buffer.clear();
+			DoubleBuffer chunk = buffer.asDoubleBuffer();
+			int count = Math.min(chunk.remaining(), remaining.remaining());
+			DoubleBuffer part = remaining.duplicate();
+			part.limit(part.position() + count);
+			chunk.put(part);
+			remaining.position(remaining.position() + count);
+			buffer.limit(8 * count);
+			writeFully(channel, buffer);
+		}
+	}
+
+	private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+}
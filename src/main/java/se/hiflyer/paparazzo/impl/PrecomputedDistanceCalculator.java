@@ -0,0 +1,68 @@
+package se.hiflyer.paparazzo.impl;
+
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.NodeIndexer;
+
+import java.util.Arrays;
+
+/**
+ * Stores edge weights from another {@link DistanceCalculator} in dense arrays, with a fixed number
+ * of slots per node index. Weights are filled in the first time an edge is asked for, or up front
+ * with {@link #precompute(Iterable, NeighbourLookup)}. Edges that don't fit in the slots of a node
+ * are passed on to the delegate every time.
+ * <p>
+ * Filling in weights is not thread safe. Call {@link #precompute(Iterable, NeighbourLookup)} before
+ * sharing an instance between threads, for instance with {@link se.hiflyer.paparazzo.algorithm.ParallelAStar}.
+ */
+public class PrecomputedDistanceCalculator<T> implements DistanceCalculator<T> {
+	private static final int EMPTY = -1;
+
+	private final DistanceCalculator<T> delegate;
+	private final NodeIndexer<T> indexer;
+	private final int slotsPerNode;
+	private final int[] targets;
+	private final double[] weights;
+
+	public PrecomputedDistanceCalculator(DistanceCalculator<T> delegate, NodeIndexer<T> indexer, int nodeCount, int slotsPerNode) {
+		if (nodeCount < 0 || slotsPerNode < 1) {
+			throw new IllegalArgumentException(String.format("Invalid size, %d nodes with %d slots each", nodeCount, slotsPerNode));
+		}
+		this.delegate = delegate;
+		this.indexer = indexer;
+		this.slotsPerNode = slotsPerNode;
+		this.targets = new int[Math.multiplyExact(nodeCount, slotsPerNode)];
+		this.weights = new double[targets.length];
+		Arrays.fill(targets, EMPTY);
+	}
+
+	/**
+	 * Looks up and stores the weight of every edge from the given nodes.
+	 */
+	public void precompute(Iterable<T> nodes, NeighbourLookup<T> neighbourLookup) {
+		for (T x : nodes) {
+			for (T y : neighbourLookup.getNeighbours(x)) {
+				getDistanceBetween(x, y);
+			}
+		}
+	}
+
+	@Override
+	public double getDistanceBetween(T x, T y) {
+		int target = indexer.getIndex(y);
+		int first = indexer.getIndex(x) * slotsPerNode;
+		int end = first + slotsPerNode;
+		for (int slot = first; slot < end; slot++) {
+			if (targets[slot] == target) {
+				return weights[slot];
+			}
+			if (targets[slot] == EMPTY) {
+				double weight = delegate.getDistanceBetween(x, y);
+				weights[slot] = weight;
+				targets[slot] = target;
+				return weight;
+			}
+		}
+		return delegate.getDistanceBetween(x, y);
+	}
+}
@@ -0,0 +1,8 @@
+package se.hiflyer.paparazzo.interfaces;
+
+public interface NodeIndexer<T> {
+	/**
+	 * @return a unique index for the node, in the range [0, number of nodes)
+	 */
+	int getIndex(T node);
+}
@@ -0,0 +1,5 @@
+package se.hiflyer.paparazzo.interfaces;
+
+public interface PathFinder<T> {
+	Path<T> search(T start, T goal);
+}
@@ -2,8 +2,10 @@ package se.hiflyer.paparazzo.algorithm;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Table;
 import com.googlecode.gentyref.TypeToken;
 import org.junit.Test;
@@ -137,6 +139,35 @@ public class AStarTest {
 //		}
 	}
 
+	@Test
+	public void estimatesEachNodeOnce() throws Exception {
+		final Multiset<Pos> estimated = HashMultiset.create();
+		HeuristicEstimator<Pos> estimator = (start, goal) -> {
+			estimated.add(start);
+			return Math.max(Math.abs(start.row - goal.row), Math.abs(start.col - goal.col));
+		};
+		// Diagonal steps are cheap, so many nodes are first reached the long way and improved later
+		NeighbourLookup<Pos> neighbourLookup = p -> {
+			List<Pos> neighbours = Lists.newArrayList();
+			for (int row = p.row - 1; row <= p.row + 1; row++) {
+				for (int col = p.col - 1; col <= p.col + 1; col++) {
+					if ((row != p.row || col != p.col) && row >= 0 && row < 10 && col >= 0 && col < 10) {
+						neighbours.add(new Pos(row, col));
+					}
+				}
+			}
+			return neighbours;
+		};
+		DistanceCalculator<Pos> distanceCalculator = (start, goal) -> start.row != goal.row && start.col != goal.col ? 1.0 : 1.5;
+		AStar<Pos> aStar = new AStar<Pos>(estimator, neighbourLookup, distanceCalculator);
+
+		Path<Pos> path = aStar.search(new Pos(0, 0), new Pos(7, 9));
+		assertFalse(path == Paths.FAIL);
+		for (Multiset.Entry<Pos> entry : estimated.entrySet()) {
+			assertEquals(entry.getElement().toString(), 1, entry.getCount());
+		}
+	}
+
 	static class Pos {
 		int row;
 		int col;
@@ -0,0 +1,79 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multiset;
+import org.junit.Test;
+import se.hiflyer.paparazzo.algorithm.AStarTest.Pos;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.interfaces.HeuristicEstimator;
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import static org.junit.Assert.*;
+import static se.hiflyer.paparazzo.algorithm.TestGrid.*;
+
+public class IDAStarTest {
+
+	@Test
+	public void findsPathAsShortAsAStar() throws Exception {
+		Pos start = new Pos(7, 0);
+		Pos goal = new Pos(0, 0);
+
+		Path<Pos> expected = new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal);
+		Path<Pos> path = new IDAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal);
+
+		assertFalse(path == Paths.FAIL);
+		assertEquals(start, Iterables.getFirst(path, null));
+		assertEquals(goal, Iterables.getLast(path));
+		assertEquals(cost(expected), cost(path), 0.0);
+	}
+
+	@Test
+	public void findsPathWithoutTranspositionTable() throws Exception {
+		Pos start = new Pos(2, 7);
+		Pos goal = new Pos(4, 0);
+
+		Path<Pos> expected = new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal);
+		Path<Pos> path = new IDAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 0).search(start, goal);
+
+		assertFalse(path == Paths.FAIL);
+		assertEquals(cost(expected), cost(path), 0.0);
+	}
+
+	@Test
+	public void estimatesEachNodeOnce() throws Exception {
+		Multiset<Pos> estimated = HashMultiset.create();
+		HeuristicEstimator<Pos> estimator = (start, goal) -> {
+			estimated.add(start);
+			return ESTIMATOR.estimate(start, goal);
+		};
+
+		Path<Pos> path = new IDAStar<>(estimator, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(new Pos(7, 0), new Pos(0, 0));
+
+		assertFalse(path == Paths.FAIL);
+		for (Multiset.Entry<Pos> entry : estimated.entrySet()) {
+			assertEquals(entry.getElement().toString(), 1, entry.getCount());
+		}
+	}
+
+	@Test
+	public void startIsGoal() throws Exception {
+		Pos start = new Pos(6, 6);
+
+		Path<Pos> path = new IDAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, start);
+
+		assertEquals(1, Iterables.size(path));
+	}
+
+	@Test
+	public void impossibleSearch() throws Exception {
+		Path<Pos> path = new IDAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(new Pos(7, 7), new Pos(0, 7));
+
+		assertEquals(Paths.FAIL, path);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeTranspositionTableSize() throws Exception {
+		new IDAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, -1);
+	}
+}
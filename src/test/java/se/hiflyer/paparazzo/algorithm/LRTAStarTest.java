@@ -0,0 +1,87 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import se.hiflyer.paparazzo.algorithm.AStarTest.Pos;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static se.hiflyer.paparazzo.algorithm.TestGrid.*;
+
+public class LRTAStarTest {
+
+	@Test
+	public void commitsToTheFirstSteps() throws Exception {
+		LRTAStar<Pos> lrtaStar = new LRTAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR);
+		Pos start = new Pos(7, 0);
+
+		Path<Pos> path = lrtaStar.nextSteps(start, new Pos(0, 0), 3);
+
+		assertEquals(4, Iterables.size(path));
+		assertEquals(start, Iterables.getFirst(path, null));
+		Pos previous = null;
+		for (Pos pos : path) {
+			assertTrue(isWalkable(pos));
+			if (previous != null) {
+				assertTrue(Iterables.contains(NEIGHBOUR_LOOKUP.getNeighbours(previous), pos));
+			}
+			previous = pos;
+		}
+	}
+
+	@Test
+	public void stopsAtTheGoal() throws Exception {
+		LRTAStar<Pos> lrtaStar = new LRTAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR);
+
+		Path<Pos> path = lrtaStar.nextSteps(new Pos(6, 6), new Pos(6, 7), 5);
+
+		assertEquals(Lists.newArrayList(new Pos(6, 6), new Pos(6, 7)), Lists.newArrayList(path));
+	}
+
+	@Test
+	public void repeatedTripsConvergeOnShortestPath() throws Exception {
+		LRTAStar<Pos> lrtaStar = new LRTAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR);
+		Pos start = new Pos(7, 0);
+		Pos goal = new Pos(0, 0);
+		double shortest = cost(new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal));
+
+		double cost = Double.POSITIVE_INFINITY;
+		for (int trip = 0; trip < 100 && cost > shortest; trip++) {
+			cost = travel(lrtaStar, start, goal);
+		}
+		assertEquals(shortest, cost, 0.0);
+	}
+
+	@Test
+	public void deadEnd() throws Exception {
+		LRTAStar<Pos> lrtaStar = new LRTAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR);
+
+		Path<Pos> path = lrtaStar.nextSteps(new Pos(0, 7), new Pos(0, 0), 1);
+
+		assertEquals(Paths.FAIL, path);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void noSteps() throws Exception {
+		new LRTAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).nextSteps(new Pos(7, 0), new Pos(0, 0), 0);
+	}
+
+	private double travel(LRTAStar<Pos> lrtaStar, Pos start, Pos goal) {
+		List<Pos> trip = Lists.newArrayList(start);
+		Pos current = start;
+		while (!current.equals(goal)) {
+			Path<Pos> steps = lrtaStar.nextSteps(current, goal, 2);
+			Iterables.addAll(trip, Iterables.skip(steps, 1));
+			current = Iterables.getLast(steps);
+		}
+		double cost = 0;
+		for (int i = 1; i < trip.size(); i++) {
+			cost += DISTANCE_CALCULATOR.getDistanceBetween(trip.get(i - 1), trip.get(i));
+		}
+		return cost;
+	}
+}
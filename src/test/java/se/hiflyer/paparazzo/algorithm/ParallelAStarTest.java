@@ -0,0 +1,114 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+import se.hiflyer.paparazzo.algorithm.AStarTest.Pos;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static se.hiflyer.paparazzo.algorithm.TestGrid.*;
+
+public class ParallelAStarTest {
+
+	@Test
+	public void findsPathAsShortAsAStar() throws Exception {
+		AStar<Pos> aStar = new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR);
+		for (int threads = 1; threads <= 4; threads++) {
+			try (ParallelAStar<Pos> parallelAStar = new ParallelAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, threads)) {
+				for (int row = 0; row < MAP.length; row++) {
+					Pos start = new Pos(row, 0);
+					Pos goal = new Pos(MAP.length - 1 - row, MAP.length - 1);
+					if (!isWalkable(start) || !isWalkable(goal)) {
+						continue;
+					}
+					Path<Pos> expected = aStar.search(start, goal);
+					Path<Pos> path = parallelAStar.search(start, goal);
+
+					assertEquals(expected == Paths.FAIL, path == Paths.FAIL);
+					if (path != Paths.FAIL) {
+						assertEquals(start, Iterables.getFirst(path, null));
+						assertEquals(goal, Iterables.getLast(path));
+						assertEquals(cost(expected), cost(path), 0.0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void startIsGoal() throws Exception {
+		Pos start = new Pos(6, 6);
+
+		try (ParallelAStar<Pos> parallelAStar = new ParallelAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 2)) {
+			Path<Pos> path = parallelAStar.search(start, start);
+
+			assertEquals(1, Iterables.size(path));
+		}
+	}
+
+	@Test
+	public void impossibleSearch() throws Exception {
+		try (ParallelAStar<Pos> parallelAStar = new ParallelAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 4)) {
+			Path<Pos> path = parallelAStar.search(new Pos(7, 7), new Pos(0, 7));
+
+			assertEquals(Paths.FAIL, path);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void concurrentSearches() throws Exception {
+		Pos start = new Pos(7, 0);
+		Pos goal = new Pos(0, 0);
+		double expected = cost(new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal));
+
+		ExecutorService callers = Executors.newFixedThreadPool(4);
+		try (ParallelAStar<Pos> parallelAStar = new ParallelAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 4)) {
+			List<Future<Path<Pos>>> paths = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				paths.add(callers.submit(() -> parallelAStar.search(start, goal)));
+			}
+			for (Future<Path<Pos>> path : paths) {
+				assertEquals(expected, cost(path.get()), 0.0);
+			}
+		} finally {
+			callers.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void failureInWorkerIsRethrown() throws Exception {
+		AtomicInteger lookups = new AtomicInteger();
+		NeighbourLookup<Pos> neighbourLookup = p -> {
+			if (lookups.incrementAndGet() > 5) {
+				throw new IllegalStateException("Lookup failed");
+			}
+			return NEIGHBOUR_LOOKUP.getNeighbours(p);
+		};
+
+		try (ParallelAStar<Pos> parallelAStar = new ParallelAStar<>(ESTIMATOR, neighbourLookup, DISTANCE_CALCULATOR, 4)) {
+			parallelAStar.search(new Pos(7, 0), new Pos(0, 0));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class, timeout = 10000)
+	public void searchAfterClose() throws Exception {
+		ParallelAStar<Pos> parallelAStar = new ParallelAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 4);
+		parallelAStar.close();
+
+		parallelAStar.search(new Pos(7, 0), new Pos(0, 0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void noThreads() throws Exception {
+		new ParallelAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 0);
+	}
+}
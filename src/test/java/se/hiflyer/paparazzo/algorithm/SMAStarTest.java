@@ -0,0 +1,120 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+import se.hiflyer.paparazzo.algorithm.AStarTest.Pos;
+import se.hiflyer.paparazzo.impl.Paths;
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.HeuristicEstimator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static se.hiflyer.paparazzo.algorithm.TestGrid.*;
+
+public class SMAStarTest {
+	// Cost of stepping onto each cell, moves go in eight directions
+	private static final String[] WEIGHTS = {
+			"392219999",
+			"219993931",
+			"119192993",
+			"192119992",
+	};
+	private static final HeuristicEstimator<Pos> WEIGHTED_ESTIMATOR = (start, goal) -> Math.max(Math.abs(start.row - goal.row), Math.abs(start.col - goal.col));
+	private static final DistanceCalculator<Pos> WEIGHTED_DISTANCE_CALCULATOR = (start, goal) -> WEIGHTS[goal.row].charAt(goal.col) - '0';
+	private static final NeighbourLookup<Pos> WEIGHTED_NEIGHBOUR_LOOKUP = p -> {
+		List<Pos> neighbours = new ArrayList<>();
+		for (int row = Math.max(p.row - 1, 0); row <= Math.min(p.row + 1, WEIGHTS.length - 1); row++) {
+			for (int col = Math.max(p.col - 1, 0); col <= Math.min(p.col + 1, WEIGHTS[row].length() - 1); col++) {
+				if (row != p.row || col != p.col) {
+					neighbours.add(new Pos(row, col));
+				}
+			}
+		}
+		return neighbours;
+	};
+
+	@Test
+	public void findsPathAsShortAsAStar() throws Exception {
+		Pos start = new Pos(7, 0);
+		Pos goal = new Pos(0, 0);
+
+		Path<Pos> expected = new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal);
+		Path<Pos> path = new SMAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 1000).search(start, goal);
+
+		assertFalse(path == Paths.FAIL);
+		assertEquals(start, Iterables.getFirst(path, null));
+		assertEquals(goal, Iterables.getLast(path));
+		assertEquals(cost(expected), cost(path), 0.0);
+	}
+
+	@Test
+	public void findsPathAsShortAsAStarWhenForgettingNodes() throws Exception {
+		Pos start = new Pos(7, 0);
+		Pos goal = new Pos(0, 0);
+
+		Path<Pos> expected = new AStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR).search(start, goal);
+		Path<Pos> path = new SMAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 24).search(start, goal);
+
+		assertFalse(path == Paths.FAIL);
+		assertEquals(cost(expected), cost(path), 0.0);
+	}
+
+	@Test
+	public void pathLongerThanNodeCap() throws Exception {
+		Path<Pos> path = new SMAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 5).search(new Pos(7, 0), new Pos(0, 0));
+
+		assertEquals(Paths.FAIL, path);
+	}
+
+	@Test(timeout = 10000)
+	public void nodeCapJustAbovePathLength() throws Exception {
+		Pos start = new Pos(3, 0);
+		Pos goal = new Pos(0, 7);
+
+		Path<Pos> expected = new AStar<>(WEIGHTED_ESTIMATOR, WEIGHTED_NEIGHBOUR_LOOKUP, WEIGHTED_DISTANCE_CALCULATOR).search(start, goal);
+		assertEquals(8, Iterables.size(expected));
+		for (int maxNodes = 8; maxNodes <= 16; maxNodes++) {
+			Path<Pos> path = new SMAStar<>(WEIGHTED_ESTIMATOR, WEIGHTED_NEIGHBOUR_LOOKUP, WEIGHTED_DISTANCE_CALCULATOR, maxNodes).search(start, goal);
+
+			assertFalse(path == Paths.FAIL);
+			assertEquals(weightedCost(expected), weightedCost(path), 0.0);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void nodeCapBelowPathLength() throws Exception {
+		for (int maxNodes = 2; maxNodes < 8; maxNodes++) {
+			Path<Pos> path = new SMAStar<>(WEIGHTED_ESTIMATOR, WEIGHTED_NEIGHBOUR_LOOKUP, WEIGHTED_DISTANCE_CALCULATOR, maxNodes).search(new Pos(3, 0), new Pos(0, 7));
+
+			assertEquals(Paths.FAIL, path);
+		}
+	}
+
+	@Test
+	public void impossibleSearch() throws Exception {
+		Path<Pos> path = new SMAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 1000).search(new Pos(7, 7), new Pos(0, 7));
+
+		assertEquals(Paths.FAIL, path);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooSmallNodeCap() throws Exception {
+		new SMAStar<>(ESTIMATOR, NEIGHBOUR_LOOKUP, DISTANCE_CALCULATOR, 1);
+	}
+
+	private static double weightedCost(Path<Pos> path) {
+		double cost = 0;
+		Pos previous = null;
+		for (Pos pos : path) {
+			if (previous != null) {
+				cost += WEIGHTED_DISTANCE_CALCULATOR.getDistanceBetween(previous, pos);
+			}
+			previous = pos;
+		}
+		return cost;
+	}
+}
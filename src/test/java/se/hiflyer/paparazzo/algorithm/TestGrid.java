@@ -0,0 +1,55 @@
+package se.hiflyer.paparazzo.algorithm;
+
+import com.google.common.collect.Lists;
+import se.hiflyer.paparazzo.algorithm.AStarTest.Pos;
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.HeuristicEstimator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.Path;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+class TestGrid {
+	// The top right corner is walled in and can't be reached from anywhere else
+	static final String[] MAP = {
+			"......#.",
+			".####.##",
+			"....#...",
+			"##.#..#.",
+			"...#.##.",
+			".###....",
+			"........",
+			"...#....",
+	};
+
+	static final HeuristicEstimator<Pos> ESTIMATOR = (start, goal) -> Math.abs(start.row - goal.row) + Math.abs(start.col - goal.col);
+	static final DistanceCalculator<Pos> DISTANCE_CALCULATOR = (start, goal) -> Math.abs(start.row - goal.row) + Math.abs(start.col - goal.col);
+	static final NeighbourLookup<Pos> NEIGHBOUR_LOOKUP = p -> {
+		List<Pos> neighbours = Lists.newArrayList(
+				new Pos(p.row - 1, p.col),
+				new Pos(p.row + 1, p.col),
+				new Pos(p.row, p.col - 1),
+				new Pos(p.row, p.col + 1));
+		return neighbours.stream().filter(TestGrid::isWalkable).collect(Collectors.toList());
+	};
+
+	private TestGrid() {
+	}
+
+	static boolean isWalkable(Pos pos) {
+		return pos.row >= 0 && pos.row < MAP.length && pos.col >= 0 && pos.col < MAP[pos.row].length() && MAP[pos.row].charAt(pos.col) == '.';
+	}
+
+	static double cost(Path<Pos> path) {
+		double cost = 0;
+		Pos previous = null;
+		for (Pos pos : path) {
+			if (previous != null) {
+				cost += DISTANCE_CALCULATOR.getDistanceBetween(previous, pos);
+			}
+			previous = pos;
+		}
+		return cost;
+	}
+}
@@ -0,0 +1,44 @@
+package se.hiflyer.paparazzo.impl;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+public class ArrayPathTest {
+
+	@Test
+	public void followsParentsFromLastNode() throws Exception {
+		Map<String, String> parents = new TreeMap<>();
+		parents.put("goal", "b");
+		parents.put("b", "a");
+		parents.put("a", "start");
+
+		ArrayPath<String> path = ArrayPath.fromParents("goal", parents::get);
+		parents.clear();
+
+		assertEquals(Lists.newArrayList("start", "a", "b", "goal"), Lists.newArrayList(path));
+		assertEquals(Lists.newArrayList("start", "a", "b", "goal"), Lists.newArrayList(path));
+		assertEquals(4, path.size());
+	}
+
+	@Test
+	public void parallelStream() throws Exception {
+		ArrayPath<Integer> path = ArrayPath.fromParents(1000, node -> node > 0 ? node - 1 : null);
+
+		assertEquals(1001, path.spliterator().getExactSizeIfKnown());
+		assertEquals(Lists.newArrayList(path), StreamSupport.stream(path.spliterator(), true).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void singleNode() throws Exception {
+		ArrayPath<String> path = ArrayPath.fromParents("start", node -> null);
+
+		assertEquals(Lists.newArrayList("start"), Lists.newArrayList(path));
+	}
+}
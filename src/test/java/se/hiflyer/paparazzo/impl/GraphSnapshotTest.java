@@ -0,0 +1,163 @@
+package se.hiflyer.paparazzo.impl;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import se.hiflyer.paparazzo.algorithm.AStar;
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.HeuristicEstimator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+import se.hiflyer.paparazzo.interfaces.NodeIndexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GraphSnapshotTest {
+	private static final int SIZE = 10;
+
+	// A ring of nodes 0 to SIZE - 1 where every node also has an edge to the node three steps ahead
+	private final NeighbourLookup<Integer> neighbourLookup = x -> Lists.newArrayList((x + 1) % SIZE, (x + SIZE - 1) % SIZE, (x + 3) % SIZE);
+	private final DistanceCalculator<Integer> distanceCalculator = (x, y) -> (y - x + SIZE) % SIZE == 3 ? 1.5 : 1.0;
+	private final NodeIndexer<Integer> indexer = x -> x;
+	private final List<Integer> nodes = Lists.newArrayList();
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		for (int i = 0; i < SIZE; i++) {
+			nodes.add(i);
+		}
+		file = File.createTempFile("snapshot", ".bin");
+		file.deleteOnExit();
+	}
+
+	@Test
+	public void writeAndMap() throws Exception {
+		GraphSnapshot snapshot = GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator);
+		snapshot.writeTo(file);
+
+		GraphSnapshot mapped = GraphSnapshot.map(file);
+		assertEquals(SIZE, mapped.getNodeCount());
+		assertEquals(3 * SIZE, mapped.getEdgeCount());
+		NeighbourLookup<Integer> mappedNeighbourLookup = mapped.neighbourLookup(indexer, i -> i);
+		DistanceCalculator<Integer> mappedDistanceCalculator = mapped.distanceCalculator(indexer);
+		for (int x : nodes) {
+			assertEquals(neighbourLookup.getNeighbours(x), mappedNeighbourLookup.getNeighbours(x));
+			for (int y : neighbourLookup.getNeighbours(x)) {
+				assertEquals(distanceCalculator.getDistanceBetween(x, y), mappedDistanceCalculator.getDistanceBetween(x, y), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void searchOnMappedSnapshot() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		GraphSnapshot mapped = GraphSnapshot.map(file);
+		HeuristicEstimator<Integer> estimator = (x, goal) -> 0;
+
+		AStar<Integer> aStar = new AStar<>(estimator, mapped.neighbourLookup(indexer, i -> i), mapped.distanceCalculator(indexer));
+
+		assertEquals(Lists.newArrayList(0, 3, 6), Lists.newArrayList(aStar.search(0, 6)));
+	}
+
+	@Test
+	public void nodesWithoutEdges() throws Exception {
+		GraphSnapshot.build(Lists.newArrayList(4), SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		GraphSnapshot mapped = GraphSnapshot.map(file);
+
+		assertEquals(3, mapped.getEdgeCount());
+		assertFalse(mapped.neighbourLookup(indexer, i -> i).getNeighbours(0).iterator().hasNext());
+		assertEquals(Lists.newArrayList(5, 3, 7), mapped.neighbourLookup(indexer, i -> i).getNeighbours(4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void missingEdge() throws Exception {
+		GraphSnapshot snapshot = GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator);
+
+		snapshot.distanceCalculator(indexer).getDistanceBetween(0, 5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void duplicateIndex() throws Exception {
+		nodes.add(4);
+
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void neighbourOutsideSnapshot() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, x -> Lists.newArrayList(x + 1), distanceCalculator);
+	}
+
+	@Test(expected = IOException.class)
+	public void unsupportedVersion() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(4);
+			raf.writeInt(GraphSnapshot.VERSION + 1);
+		}
+
+		GraphSnapshot.map(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void offsetsOutOfOrder() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			// Offset of node 2, placing its edges before those of node 1
+			raf.seek(16 + 4 * 2);
+			raf.writeInt(1);
+		}
+
+		GraphSnapshot.map(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void offsetsDontMatchEdgeCount() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(16 + 4 * SIZE);
+			raf.writeInt(3 * SIZE - 1);
+		}
+
+		GraphSnapshot.map(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void targetOutsideSnapshot() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(16 + 4 * (SIZE + 1));
+			raf.writeInt(SIZE);
+		}
+
+		GraphSnapshot.map(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void sizesOverflowingInt() throws Exception {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.writeInt(GraphSnapshot.MAGIC);
+			raf.writeInt(GraphSnapshot.VERSION);
+			raf.writeInt(Integer.MAX_VALUE);
+			raf.writeInt(715827883);
+			raf.writeLong(0);
+		}
+
+		GraphSnapshot.map(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void truncated() throws Exception {
+		GraphSnapshot.build(nodes, SIZE, indexer, neighbourLookup, distanceCalculator).writeTo(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 8);
+		}
+
+		GraphSnapshot.map(file);
+	}
+}
@@ -0,0 +1,74 @@
+package se.hiflyer.paparazzo.impl;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import se.hiflyer.paparazzo.interfaces.DistanceCalculator;
+import se.hiflyer.paparazzo.interfaces.NeighbourLookup;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PrecomputedDistanceCalculatorTest {
+	private final AtomicInteger calls = new AtomicInteger();
+	private final DistanceCalculator<Integer> distanceCalculator = (x, y) -> {
+		calls.incrementAndGet();
+		return Math.sqrt(Math.abs(x - y));
+	};
+
+	@Test
+	public void delegatesOncePerEdge() throws Exception {
+		PrecomputedDistanceCalculator<Integer> precomputed = new PrecomputedDistanceCalculator<>(distanceCalculator, x -> x, 10, 2);
+
+		assertEquals(Math.sqrt(3), precomputed.getDistanceBetween(2, 5), 0.0);
+		assertEquals(Math.sqrt(3), precomputed.getDistanceBetween(2, 5), 0.0);
+		assertEquals(Math.sqrt(3), precomputed.getDistanceBetween(5, 2), 0.0);
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void edgesBeyondTheSlotsAreDelegated() throws Exception {
+		PrecomputedDistanceCalculator<Integer> precomputed = new PrecomputedDistanceCalculator<>(distanceCalculator, x -> x, 10, 2);
+
+		precomputed.getDistanceBetween(0, 1);
+		precomputed.getDistanceBetween(0, 4);
+		assertEquals(3.0, precomputed.getDistanceBetween(0, 9), 0.0);
+		assertEquals(3.0, precomputed.getDistanceBetween(0, 9), 0.0);
+		assertEquals(2.0, precomputed.getDistanceBetween(0, 4), 0.0);
+		assertEquals(4, calls.get());
+	}
+
+	@Test
+	public void precompute() throws Exception {
+		NeighbourLookup<Integer> neighbourLookup = x -> {
+			List<Integer> neighbours = Lists.newArrayList();
+			if (x > 0) {
+				neighbours.add(x - 1);
+			}
+			if (x < 9) {
+				neighbours.add(x + 1);
+			}
+			return neighbours;
+		};
+		PrecomputedDistanceCalculator<Integer> precomputed = new PrecomputedDistanceCalculator<>(distanceCalculator, x -> x, 10, 2);
+		List<Integer> nodes = Lists.newArrayList();
+		for (int i = 0; i < 10; i++) {
+			nodes.add(i);
+		}
+
+		precomputed.precompute(nodes, neighbourLookup);
+		assertEquals(18, calls.get());
+		for (int x : nodes) {
+			for (int y : neighbourLookup.getNeighbours(x)) {
+				assertEquals(1.0, precomputed.getDistanceBetween(x, y), 0.0);
+			}
+		}
+		assertEquals(18, calls.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void noSlots() throws Exception {
+		new PrecomputedDistanceCalculator<>(distanceCalculator, x -> x, 10, 0);
+	}
+}